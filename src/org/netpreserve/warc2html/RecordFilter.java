@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021-2025 National Library of Australia
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.netpreserve.warc2html;
+
+import org.netpreserve.jwarc.URIs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Include/exclude rules on URL (SURT prefix, host, regex) and MIME type.
+ * <p>
+ * The URL and type checks are separate so callers can reject a record on its URL before paying for HTTP header
+ * parsing. Include rules of the same group are ORed together; any matching exclude rule rejects the record.
+ */
+class RecordFilter {
+    private final List<String> includeSurtPrefixes = new ArrayList<>();
+    private final List<String> excludeSurtPrefixes = new ArrayList<>();
+    private final List<String> includeHosts = new ArrayList<>();
+    private final List<String> excludeHosts = new ArrayList<>();
+    private final List<Pattern> includePatterns = new ArrayList<>();
+    private final List<Pattern> excludePatterns = new ArrayList<>();
+    private final List<String> includeTypes = new ArrayList<>();
+    private final List<String> excludeTypes = new ArrayList<>();
+
+    /**
+     * Accepts a SURT prefix like "org,example)/foo", a Heritrix-style one like "http://(org,example,)/foo" or a URL
+     * which is converted to one.
+     */
+    void includeSurtPrefix(String prefix) {
+        includeSurtPrefixes.add(normalizeSurtPrefix(prefix));
+    }
+
+    void excludeSurtPrefix(String prefix) {
+        excludeSurtPrefixes.add(normalizeSurtPrefix(prefix));
+    }
+
+    /**
+     * Matches the given host and any of its subdomains.
+     */
+    void includeHost(String host) {
+        includeHosts.add(host.toLowerCase(Locale.ROOT));
+    }
+
+    void excludeHost(String host) {
+        excludeHosts.add(host.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Matches if the regex is found anywhere in the URL.
+     */
+    void includeRegex(String regex) {
+        includePatterns.add(Pattern.compile(regex));
+    }
+
+    void excludeRegex(String regex) {
+        excludePatterns.add(Pattern.compile(regex));
+    }
+
+    /**
+     * Accepts an exact type like "text/html" or a major type like "image/" or "image/*".
+     */
+    void includeType(String type) {
+        includeTypes.add(normalizeType(type));
+    }
+
+    void excludeType(String type) {
+        excludeTypes.add(normalizeType(type));
+    }
+
+    boolean acceptsUrl(String url) {
+        return acceptsUrl(url, null);
+    }
+
+    /**
+     * Like {@link #acceptsUrl(String)} but uses the given normalized SURT (e.g. a CDX key) instead of computing one.
+     */
+    boolean acceptsUrl(String url, String surt) {
+        boolean hasIncludes = !includeSurtPrefixes.isEmpty() || !includeHosts.isEmpty() || !includePatterns.isEmpty();
+        if (!hasIncludes && excludeSurtPrefixes.isEmpty() && excludeHosts.isEmpty() && excludePatterns.isEmpty()) {
+            return true;
+        }
+
+        // only compute the SURT and host when there is a rule that needs them
+        if (includeSurtPrefixes.isEmpty() && excludeSurtPrefixes.isEmpty()) {
+            surt = null;
+        } else if (surt == null) {
+            surt = URIs.toNormalizedSurt(url);
+        }
+        String host = includeHosts.isEmpty() && excludeHosts.isEmpty() ? null : hostOf(url);
+
+        if (surt != null && startsWithAny(surt, excludeSurtPrefixes)) return false;
+        if (host != null && matchesAnyHost(host, excludeHosts)) return false;
+        for (Pattern pattern : excludePatterns) {
+            if (pattern.matcher(url).find()) return false;
+        }
+
+        if (!hasIncludes) return true;
+        if (surt != null && startsWithAny(surt, includeSurtPrefixes)) return true;
+        if (host != null && matchesAnyHost(host, includeHosts)) return true;
+        for (Pattern pattern : includePatterns) {
+            if (pattern.matcher(url).find()) return true;
+        }
+        return false;
+    }
+
+    boolean acceptsType(String type) {
+        if (includeTypes.isEmpty() && excludeTypes.isEmpty()) return true;
+        if (type == null) return includeTypes.isEmpty();
+        type = type.toLowerCase(Locale.ROOT);
+        if (matchesAnyType(type, excludeTypes)) return false;
+        return includeTypes.isEmpty() || matchesAnyType(type, includeTypes);
+    }
+
+    private static String normalizeSurtPrefix(String prefix) {
+        int paren = prefix.indexOf('(');
+        if (paren == 0 || (paren >= 3 && prefix.startsWith("://", paren - 3))) {
+            // Heritrix form: drop the scheme and parenthesis and the comma that ends the host
+            return prefix.substring(paren + 1).replace(",)", ")").toLowerCase(Locale.ROOT);
+        }
+        if (prefix.contains("://")) return URIs.toNormalizedSurt(prefix);
+        return prefix.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeType(String type) {
+        type = type.toLowerCase(Locale.ROOT);
+        if (type.endsWith("/*")) type = type.substring(0, type.length() - 1);
+        return type;
+    }
+
+    private static boolean startsWithAny(String s, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (s.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static boolean matchesAnyHost(String host, List<String> hosts) {
+        for (String candidate : hosts) {
+            if (host.equals(candidate)) return true;
+            if (host.length() > candidate.length() && host.endsWith(candidate)
+                && host.charAt(host.length() - candidate.length() - 1) == '.') return true;
+        }
+        return false;
+    }
+
+    private static boolean matchesAnyType(String type, List<String> types) {
+        for (String candidate : types) {
+            if (candidate.endsWith("/") ? type.startsWith(candidate) : type.equals(candidate)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the lowercased host from a URL without fully parsing it.
+     */
+    static String hostOf(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') break;
+            end++;
+        }
+        int at = url.lastIndexOf('@', end - 1);
+        if (at >= start) start = at + 1;
+        int colon = url.lastIndexOf(':', end - 1);
+        if (colon >= start && url.lastIndexOf(']', end - 1) < colon) end = colon;
+        return url.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+}
@@ -38,6 +38,10 @@ class Resource {
     }
 
     public boolean isRedirect() {
+        return isRedirect(status, locationHeader);
+    }
+
+    static boolean isRedirect(int status, String locationHeader) {
         return status >= 300 && status <= 399 && locationHeader != null;
     }
 }
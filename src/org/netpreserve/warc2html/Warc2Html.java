@@ -37,6 +37,7 @@ public class Warc2Html {
     private final Map<String, Resource> resourcesByUrlKey = new HashMap<>();
     private final Map<String, Resource> resourcesByPath = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     private final Map<String, String> forcedExtensions = new HashMap<>(DEFAULT_FORCED_EXTENSIONS);
+    private final RecordFilter filter = new RecordFilter();
     private String warcBaseLocation = "";
     private Instant endDate;
     private Instant startDate;
@@ -59,7 +60,16 @@ public class Warc2Html {
                         System.out.println("  -b, --warc-base URL      Base URL or path where WARC files are stored");
                         System.out.println("  --after DATE             Only include records after this date (ISO format)");
                         System.out.println("  --before DATE            Only include records before this date (ISO format)");
+                        System.out.println("  --include-surt PREFIX    Only include URLs matching this SURT prefix (or URL)");
+                        System.out.println("  --exclude-surt PREFIX    Exclude URLs matching this SURT prefix (or URL)");
+                        System.out.println("  --include-host HOST      Only include URLs on this host or its subdomains");
+                        System.out.println("  --exclude-host HOST      Exclude URLs on this host or its subdomains");
+                        System.out.println("  --include-regex REGEX    Only include URLs containing a match for this regex");
+                        System.out.println("  --exclude-regex REGEX    Exclude URLs containing a match for this regex");
+                        System.out.println("  --include-type TYPE      Only include this MIME type (e.g. text/html or image/*)");
+                        System.out.println("  --exclude-type TYPE      Exclude this MIME type (e.g. text/html or image/*)");
                         System.out.println("  -n, --dry-run            Print the file list without writing files");
+                        System.out.println("Date and filter options only apply to inputs that follow them.");
                         return;
                     case "--after":
                         warc2Html.startDate = Instant.parse(args[++i]);
@@ -67,6 +77,30 @@ public class Warc2Html {
                     case "--before":
                         warc2Html.endDate = Instant.parse(args[++i]);
                         break;
+                    case "--include-surt":
+                        warc2Html.filter.includeSurtPrefix(args[++i]);
+                        break;
+                    case "--exclude-surt":
+                        warc2Html.filter.excludeSurtPrefix(args[++i]);
+                        break;
+                    case "--include-host":
+                        warc2Html.filter.includeHost(args[++i]);
+                        break;
+                    case "--exclude-host":
+                        warc2Html.filter.excludeHost(args[++i]);
+                        break;
+                    case "--include-regex":
+                        warc2Html.filter.includeRegex(args[++i]);
+                        break;
+                    case "--exclude-regex":
+                        warc2Html.filter.excludeRegex(args[++i]);
+                        break;
+                    case "--include-type":
+                        warc2Html.filter.includeType(args[++i]);
+                        break;
+                    case "--exclude-type":
+                        warc2Html.filter.excludeType(args[++i]);
+                        break;
                     case "-b":
                     case "--warc-base":
                         warc2Html.setWarcBaseLocation(args[++i]);
@@ -156,7 +190,7 @@ public class Warc2Html {
                     String surt = record.get(CdxFields.NORMALIZED_SURT);
                     if (!surt.startsWith(surtPrefix)) break out;
                     queryUrl = record.target();
-                    if (!shouldInclude(new Resource(record))) continue;
+                    if (!shouldInclude(record)) continue;
                     if (previous != null && !previous.get(CdxFields.NORMALIZED_SURT).equals(surt)) {
                         add(new Resource(previous));
                     }
@@ -167,20 +201,46 @@ public class Warc2Html {
         if (previous != null) add(new Resource(previous));
     }
 
-    private boolean shouldInclude(Resource resource) {
-        if (resource.status >= 400) return false;
-        if (endDate != null && resource.instant.isAfter(endDate)) return false;
-        if (startDate != null && resource.instant.isBefore(startDate)) return false;
+    private boolean shouldInclude(int status, Instant instant) {
+        return shouldIncludeStatus(status) && shouldIncludeDate(instant);
+    }
+
+    private static boolean shouldIncludeStatus(int status) {
+        return status < 400;
+    }
+
+    private boolean shouldIncludeDate(Instant instant) {
+        if (endDate != null && instant.isAfter(endDate)) return false;
+        if (startDate != null && instant.isBefore(startDate)) return false;
         return true;
     }
 
+    /**
+     * Redirects are kept regardless of their own Content-Type so links through them to kept resources still resolve.
+     * Those whose target wasn't loaded are dropped again by {@link #resolveRedirects()}.
+     */
+    private boolean shouldIncludeType(String type, int status, String locationHeader) {
+        return Resource.isRedirect(status, locationHeader) || filter.acceptsType(type);
+    }
+
+    /**
+     * Cheap checks on the CDX fields so that excluded records never become a Resource.
+     */
+    private boolean shouldInclude(CdxRecord record) {
+        if (!filter.acceptsUrl(record.target(), record.get(CdxFields.NORMALIZED_SURT))) return false;
+        int status = record.status();
+        if (!shouldIncludeType(record.get(CdxFields.MIME_TYPE), status, record.redirect())) return false;
+        return shouldInclude(status, record.date());
+    }
+
     public void loadCdx(InputStream stream) throws IOException {
         for (CdxRecord record : new CdxReader(stream)) {
+            if (!shouldInclude(record)) continue;
             add(new Resource(record));
         }
     }
 
-    private void loadWarc(String filename, InputStream stream) throws IOException {
+    public void loadWarc(String filename, InputStream stream) throws IOException {
         WarcReader reader = new WarcReader(stream);
         WarcRecord record = reader.next().orElse(null);
         while (record != null) {
@@ -190,11 +250,15 @@ public class Warc2Html {
             }
             WarcResponse response = (WarcResponse) record;
             String url = response.target();
-            if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            if ((!url.startsWith("http://") && !url.startsWith("https://")) || !filter.acceptsUrl(url)) {
                 record = reader.next().orElse(null);
                 continue;
             }
             Instant instant = response.date();
+            if (!shouldIncludeDate(instant)) {
+                record = reader.next().orElse(null);
+                continue;
+            }
             String type;
             try {
                 type = response.payloadType().base().toString();
@@ -202,8 +266,12 @@ public class Warc2Html {
                 type = "application/octet-stream";
             }
             int status = response.http().status();
-            long offset = reader.position();
             String locationHeader = response.http().headers().first("Location").orElse(null);
+            if (!shouldIncludeType(type, status, locationHeader) || !shouldIncludeStatus(status)) {
+                record = reader.next().orElse(null);
+                continue;
+            }
+            long offset = reader.position();
 
             record = reader.next().orElse(null);
             long length = reader.position() - offset;
@@ -213,8 +281,6 @@ public class Warc2Html {
     }
 
     private void add(Resource resource) {
-        if (!shouldInclude(resource)) return;
-
         String path = PathUtils.pathFromUrl(resource.url, forcedExtensions.get(resource.type));
 
         path = ensureUniquePath(resourcesByPath, path);
@@ -340,6 +406,14 @@ public class Warc2Html {
         this.warcBaseLocation = warcBaseLocation;
     }
 
+    RecordFilter getFilter() {
+        return filter;
+    }
+
+    Map<String, Resource> getResourcesByPath() {
+        return Collections.unmodifiableMap(resourcesByPath);
+    }
+
     public void resolveRedirects() {
         this.resourcesByUrlKey.replaceAll((key, resource) -> {
             if (resource.isRedirect()) {
@@ -348,5 +422,19 @@ public class Warc2Html {
                 return resource;
             }
         });
+
+        // drop redirects that were only kept for their target if the target wasn't loaded
+        Set<Resource> unresolved = new HashSet<>();
+        for (Resource resource : resourcesByPath.values()) {
+            if (!isTypeExemptRedirect(resource)) continue;
+            Resource target = resourcesByUrlKey.get(makeUrlKey(resource.locationHeader));
+            if (target == null || isTypeExemptRedirect(target)) unresolved.add(resource);
+        }
+        resourcesByPath.values().removeAll(unresolved);
+        resourcesByUrlKey.values().removeAll(unresolved);
+    }
+
+    private boolean isTypeExemptRedirect(Resource resource) {
+        return resource.isRedirect() && !filter.acceptsType(resource.type);
     }
 }
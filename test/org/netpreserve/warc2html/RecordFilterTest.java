@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021-2025 National Library of Australia
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.netpreserve.warc2html;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecordFilterTest {
+    @Test
+    public void emptyFilterAcceptsEverything() {
+        RecordFilter filter = new RecordFilter();
+        assertTrue(filter.acceptsUrl("http://example.org/"));
+        assertTrue(filter.acceptsType("text/html"));
+        assertTrue(filter.acceptsType(null));
+    }
+
+    @Test
+    public void surtPrefix() {
+        RecordFilter filter = new RecordFilter();
+        filter.includeSurtPrefix("http://example.org/docs/");
+        filter.excludeSurtPrefix("org,example)/docs/private");
+        assertTrue(filter.acceptsUrl("http://example.org/docs/index.html"));
+        assertFalse(filter.acceptsUrl("http://example.org/docs/private/a.html"));
+        assertFalse(filter.acceptsUrl("http://example.org/blog/"));
+    }
+
+    @Test
+    public void heritrixSurtPrefix() {
+        RecordFilter filter = new RecordFilter();
+        filter.includeSurtPrefix("http://(org,example,)/docs/");
+        assertTrue(filter.acceptsUrl("http://example.org/docs/index.html"));
+        assertFalse(filter.acceptsUrl("http://example.org/blog/"));
+    }
+
+    @Test
+    public void host() {
+        RecordFilter filter = new RecordFilter();
+        filter.includeHost("example.org");
+        filter.excludeHost("cdn.example.org");
+        assertTrue(filter.acceptsUrl("https://example.org/"));
+        assertTrue(filter.acceptsUrl("https://user@WWW.Example.org:8080/x"));
+        assertFalse(filter.acceptsUrl("https://img.cdn.example.org/a.png"));
+        assertFalse(filter.acceptsUrl("https://notexample.org/"));
+    }
+
+    @Test
+    public void regex() {
+        RecordFilter filter = new RecordFilter();
+        filter.excludeRegex("[?&]sessionid=");
+        assertTrue(filter.acceptsUrl("http://example.org/?page=1"));
+        assertFalse(filter.acceptsUrl("http://example.org/?page=1&sessionid=abc"));
+    }
+
+    @Test
+    public void type() {
+        RecordFilter filter = new RecordFilter();
+        filter.includeType("text/html");
+        filter.includeType("image/*");
+        filter.excludeType("image/svg+xml");
+        assertTrue(filter.acceptsType("text/html"));
+        assertTrue(filter.acceptsType("image/png"));
+        assertFalse(filter.acceptsType("image/svg+xml"));
+        assertFalse(filter.acceptsType("text/css"));
+        assertFalse(filter.acceptsType(null));
+    }
+
+    @Test
+    public void hostOf() {
+        assertEquals("example.org", RecordFilter.hostOf("http://example.org"));
+        assertEquals("example.org", RecordFilter.hostOf("http://u:p@Example.org:80/a:b"));
+        assertEquals("[::1]", RecordFilter.hostOf("http://[::1]:8080/"));
+        assertEquals("[::1]", RecordFilter.hostOf("http://[::1]/"));
+    }
+}
@@ -6,7 +6,20 @@
 package org.netpreserve.warc2html;
 
 import org.junit.Test;
+import org.netpreserve.jwarc.MediaType;
+import org.netpreserve.jwarc.WarcResponse;
+import org.netpreserve.jwarc.WarcWriter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.*;
 
 public class Warc2HtmlTest {
@@ -33,4 +46,91 @@ public class Warc2HtmlTest {
         assertEquals("../e.html", PathUtils.relativize("a/b/e.html", "a/b/c/d.html"));
         assertEquals("../../z/e.html", PathUtils.relativize("a/b/z/e.html", "a/b/c/d/e.html"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void filtersRecordsWhileLoadingCdx() throws IOException {
+        Warc2Html warc2Html = new Warc2Html();
+        warc2Html.getFilter().includeSurtPrefix("org,example)/docs/");
+        warc2Html.getFilter().includeType("text/html");
+        warc2Html.loadCdx(cdx(
+                "org,example)/docs/a.html 20210101000000 http://example.org/docs/a.html text/html 200 - - - 100 0 a.warc.gz",
+                "org,example)/docs/b.png 20210101000000 http://example.org/docs/b.png image/png 200 - - - 100 100 a.warc.gz",
+                "org,example)/docs/c.html 20210101000000 http://example.org/docs/c.html text/html 404 - - - 100 200 a.warc.gz",
+                "org,example)/blog/ 20210101000000 http://example.org/blog/ text/html 200 - - - 100 300 a.warc.gz"));
+        assertEquals(List.of("example.org/docs/a.html"), List.copyOf(warc2Html.getResourcesByPath().keySet()));
+    }
+
+    @Test
+    public void typeFilterKeepsRedirects() throws IOException {
+        Warc2Html warc2Html = new Warc2Html();
+        warc2Html.getFilter().includeType("text/html");
+        warc2Html.loadCdx(cdx(
+                "org,example)/old 20210101000000 http://example.org/old text/plain 301 - https://example.org/new.html - 100 0 a.warc.gz",
+                "org,example)/new.html 20210101000000 https://example.org/new.html text/html 200 - - - 100 100 a.warc.gz",
+                "org,example)/logo.png 20210101000000 https://example.org/logo.png image/png 200 - - - 100 200 a.warc.gz"));
+        assertEquals(List.of("example.org/new.html", "example.org/old.txt"), List.copyOf(warc2Html.getResourcesByPath().keySet()));
+    }
+
+    @Test
+    public void typeFilterDropsRedirectsToFilteredResources() throws IOException {
+        Warc2Html warc2Html = new Warc2Html();
+        warc2Html.getFilter().includeType("image/*");
+        warc2Html.loadCdx(cdx(
+                "org,example)/ 20210101000000 http://example.org/ text/html 301 - https://example.org/index.html - 100 0 a.warc.gz",
+                "org,example)/index.html 20210101000000 https://example.org/index.html text/html 200 - - - 100 100 a.warc.gz",
+                "org,example)/logo 20210101000000 http://example.org/logo text/html 302 - https://example.org/logo.png - 100 200 a.warc.gz",
+                "org,example)/logo.png 20210101000000 https://example.org/logo.png image/png 200 - - - 100 300 a.warc.gz"));
+        warc2Html.resolveRedirects();
+        assertEquals(List.of("example.org/logo.html", "example.org/logo.png"), List.copyOf(warc2Html.getResourcesByPath().keySet()));
+    }
+
+    @Test
+    public void filtersRecordsWhileLoadingWarc() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        WarcWriter writer = new WarcWriter(Channels.newChannel(buffer));
+        long[] positions = new long[7];
+        positions[0] = writer.position();
+        writer.write(response("http://example.org/docs/a.html", 200, "text/html", null));
+        positions[1] = writer.position();
+        writer.write(response("http://example.org/blog/", 200, "text/html", null));
+        positions[2] = writer.position();
+        writer.write(response("http://example.org/docs/b.png", 200, "image/png", null));
+        positions[3] = writer.position();
+        writer.write(response("http://example.org/docs/old", 301, "text/plain", "http://example.org/docs/a.html"));
+        positions[4] = writer.position();
+        writer.write(response("http://example.org/docs/c.html", 404, "text/html", null));
+        positions[5] = writer.position();
+        writer.write(response("http://example.org/docs/d.html", 200, "text/html", null));
+        positions[6] = writer.position();
+
+        Warc2Html warc2Html = new Warc2Html();
+        warc2Html.getFilter().includeSurtPrefix("org,example)/docs/");
+        warc2Html.getFilter().includeType("text/html");
+        warc2Html.loadWarc("a.warc", new ByteArrayInputStream(buffer.toByteArray()));
+
+        Map<String, Resource> resources = warc2Html.getResourcesByPath();
+        assertEquals(List.of("example.org/docs/a.html", "example.org/docs/d.html", "example.org/docs/old.txt"),
+                List.copyOf(resources.keySet()));
+        assertSpan(resources.get("example.org/docs/a.html"), positions[0], positions[1]);
+        assertSpan(resources.get("example.org/docs/old.txt"), positions[3], positions[4]);
+        assertSpan(resources.get("example.org/docs/d.html"), positions[5], positions[6]);
+    }
+
+    private static void assertSpan(Resource resource, long start, long end) {
+        assertEquals(start, resource.offset);
+        assertEquals(end - start, resource.length);
+    }
+
+    private static WarcResponse response(String url, int status, String type, String location) {
+        String http = "HTTP/1.1 " + status + " X\r\nContent-Type: " + type + "\r\n" +
+                      (location == null ? "" : "Location: " + location + "\r\n") + "Content-Length: 2\r\n\r\nhi";
+        return new WarcResponse.Builder(URI.create(url))
+                .date(Instant.parse("2021-01-01T00:00:00Z"))
+                .body(MediaType.HTTP_RESPONSE, http.getBytes(UTF_8))
+                .build();
+    }
+
+    private static ByteArrayInputStream cdx(String... lines) {
+        return new ByteArrayInputStream((" CDX N b a m s k r M S V g\n" + String.join("\n", lines) + "\n").getBytes(UTF_8));
+    }
+}